@@ -0,0 +1,68 @@
+package mail.sender.domain;
+
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Iterator;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.control.Option;
+import lombok.Value;
+
+import static java.lang.String.format;
+
+/**
+ * The same template sent to many recipients. Parameters common to all recipients are held once in
+ * {@link #sharedParameters}, each {@link Recipient} only carries the parameters that differ for it. Parameter names
+ * are interned, so that equal names coming from separately deserialized recipients share a single instance.
+ */
+@Value
+public class Campaign {
+
+    /**
+     * Names the sender both in the template and in the envelope, so it can't be overridden per recipient.
+     */
+    public static final String SENDER_SIGNATURE_NAME_PARAMETER = "senderSignatureName";
+
+    String templateId;
+    String senderEmail;
+    Map<String, String> sharedParameters;
+    List<Recipient> recipients;
+    Option<Attachment> attachment;
+
+    public Campaign(String templateId, String senderEmail, Map<String, String> sharedParameters, List<Recipient> recipients, Option<Attachment> attachment) {
+        this.templateId = templateId;
+        this.senderEmail = senderEmail;
+        this.sharedParameters = internNames(sharedParameters);
+        this.recipients = recipients;
+        this.attachment = attachment;
+    }
+
+    /**
+     * The parameters the template receives for the given recipient, where an override wins over the shared parameter
+     * with the same name. The parameters are iterated over lazily, without building a map per recipient.
+     */
+    public Iterator<Tuple2<String, String>> templateParametersOf(Recipient recipient) {
+        Map<String, String> overrides = recipient.getParameterOverrides();
+        return overrides.iterator()
+                .concat(sharedParameters.iterator().filter(parameter -> !overrides.containsKey(parameter._1)));
+    }
+
+    private static Map<String, String> internNames(Map<String, String> parameters) {
+        return parameters.isEmpty() ? HashMap.empty() : parameters.mapKeys(String::intern);
+    }
+
+    @Value
+    public static class Recipient {
+
+        String email;
+        Map<String, String> parameterOverrides;
+
+        public Recipient(String email, Map<String, String> parameterOverrides) {
+            if (parameterOverrides.containsKey(SENDER_SIGNATURE_NAME_PARAMETER)) {
+                throw new IllegalArgumentException(format("Recipient '%s' can't override '%s'.", email, SENDER_SIGNATURE_NAME_PARAMETER));
+            }
+            this.email = email;
+            this.parameterOverrides = internNames(parameterOverrides);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package mail.sender.sendgrid;
+
+import io.vavr.collection.List;
+import lombok.Getter;
+import mail.sender.domain.Campaign;
+
+import static java.lang.String.format;
+
+@Getter
+public class CampaignPartiallySentException extends RuntimeException {
+
+    private final int failedBatch;
+    private final List<Campaign.Recipient> unsentRecipients;
+
+    CampaignPartiallySentException(int failedBatch, List<Campaign.Recipient> unsentRecipients, Throwable cause) {
+        super(format("Sending campaign batch %d failed, %d recipients weren't sent.", failedBatch, unsentRecipients.size()), cause);
+        this.failedBatch = failedBatch;
+        this.unsentRecipients = unsentRecipients;
+    }
+}
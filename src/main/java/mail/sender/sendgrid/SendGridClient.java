@@ -1,12 +1,20 @@
 package mail.sender.sendgrid;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Attachments;
 import com.sendgrid.helpers.mail.objects.Personalization;
+import io.vavr.Tuple2;
 import io.vavr.collection.List;
 import io.vavr.collection.Map;
+import lombok.RequiredArgsConstructor;
 import mail.sender.domain.Attachment;
+import mail.sender.domain.Campaign;
 import mail.sender.domain.Email;
 import mail.sender.web.client.WebClientFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,16 +22,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
+import java.io.IOException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.function.Function;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.vavr.Predicates.instanceOf;
 import static java.lang.String.format;
 import static java.util.function.Predicate.isEqual;
+import static mail.sender.domain.Campaign.SENDER_SIGNATURE_NAME_PARAMETER;
+import static mail.sender.web.client.WebClientFactory.OPERATION_ATTRIBUTE;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
@@ -31,7 +44,9 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 @Service
 public class SendGridClient {
 
+    private static final String SEND_ENDPOINT = "mail/send";
     private static final String SENDERS_ENDPOINT = "marketing/senders";
+    private static final int MAX_PERSONALIZATIONS_PER_REQUEST = 1000;
 
     private final WebClient client;
     private final String authorizationHeader;
@@ -49,14 +64,41 @@ public class SendGridClient {
     public Mono<Void> sendEmail(Email email) {
         return client
                 .post()
-                .uri("mail/send")
+                .uri(SEND_ENDPOINT)
                 .header(AUTHORIZATION, authorizationHeader)
+                .attribute(OPERATION_ATTRIBUTE, "sendEmail")
                 .bodyValue(generateMail(email))
                 .retrieve()
                 .toBodilessEntity()
                 .then();
     }
 
+    /**
+     * Sends the campaign in as few requests as SendGrid allows, so that the template, sender and attachment are
+     * transferred once per batch of recipients instead of once per recipient. SendGrid has no template data shared
+     * between personalizations, so the shared parameters are still written for every recipient, but they are streamed
+     * from the campaign instead of being copied into each personalization.
+     * <p>
+     * Batches are sent one after another and sending stops at the first failed batch. The error is then a
+     * {@link CampaignPartiallySentException} carrying the index of the failed batch and the recipients of it and of
+     * all following batches, so that only those are retried. Recipients of earlier batches were accepted by SendGrid.
+     */
+    public Mono<Void> sendCampaign(Campaign campaign) {
+        List<List<Campaign.Recipient>> batches = campaign.getRecipients().grouped(MAX_PERSONALIZATIONS_PER_REQUEST).toList();
+        return Flux.fromIterable(batches.zipWithIndex())
+                .concatMap(batch -> client
+                        .post()
+                        .uri(SEND_ENDPOINT)
+                        .header(AUTHORIZATION, authorizationHeader)
+                        .attribute(OPERATION_ATTRIBUTE, "sendCampaign")
+                        .bodyValue(generateCampaignMail(campaign, batch._1))
+                        .retrieve()
+                        .toBodilessEntity()
+                        .onErrorMap(e -> new CampaignPartiallySentException(
+                                batch._2, batches.drop(batch._2).flatMap(Function.identity()), e)))
+                .then();
+    }
+
     public Mono<String> createSender(String id, String name, String email, String address, String city, String country) {
         EmailForm form = new EmailForm(name, email);
         return client
@@ -64,6 +106,7 @@ public class SendGridClient {
                 .uri(SENDERS_ENDPOINT)
                 .accept(APPLICATION_JSON)
                 .header(AUTHORIZATION, authorizationHeader)
+                .attribute(OPERATION_ATTRIBUTE, "createSender")
                 .bodyValue(new CreateSenderRequest(id, form, form, address, city, country))
                 .retrieve()
                 .onStatus(isEqual(BAD_REQUEST), response -> response
@@ -87,6 +130,7 @@ public class SendGridClient {
                 .uri(UriComponentsBuilder.fromPath(SENDERS_ENDPOINT).pathSegment(sendGridId).toUriString())
                 .accept(APPLICATION_JSON)
                 .header(AUTHORIZATION, authorizationHeader)
+                .attribute(OPERATION_ATTRIBUTE, "updateSender")
                 .bodyValue(new UpdateSenderRequest(form, form, address, city, country))
                 .retrieve()
                 .onStatus(isEqual(HttpStatus.BAD_REQUEST), response -> response.bodyToMono(Error.class).map(InvalidSenderException::new))
@@ -100,6 +144,7 @@ public class SendGridClient {
                 .delete()
                 .uri(UriComponentsBuilder.fromPath(SENDERS_ENDPOINT).pathSegment(sendGridId).toUriString())
                 .header(AUTHORIZATION, authorizationHeader)
+                .attribute(OPERATION_ATTRIBUTE, "deleteSender")
                 .retrieve()
                 .onStatus(isEqual(NOT_FOUND), unused -> Mono.empty())
                 .toBodilessEntity()
@@ -112,6 +157,7 @@ public class SendGridClient {
                 .uri(UriComponentsBuilder.fromPath(SENDERS_ENDPOINT).pathSegment(sendGridId).toUriString())
                 .accept(APPLICATION_JSON)
                 .header(AUTHORIZATION, authorizationHeader)
+                .attribute(OPERATION_ATTRIBUTE, "fetchVerificationStatus")
                 .retrieve()
                 .onStatus(isEqual(NOT_FOUND), unused -> Mono.just(new SenderDoesNotExistException(sendGridId)))
                 .bodyToMono(Sender.class)
@@ -123,6 +169,7 @@ public class SendGridClient {
                 .post()
                 .uri(UriComponentsBuilder.fromPath(SENDERS_ENDPOINT).pathSegment(sendGridId, "resend_verification").toUriString())
                 .header(AUTHORIZATION, authorizationHeader)
+                .attribute(OPERATION_ATTRIBUTE, "resendVerificationEmail")
                 .retrieve()
                 .onStatus(isEqual(HttpStatus.BAD_REQUEST), unused -> Mono.just(new SenderAlreadyVerifiedException(sendGridId)))
                 .onStatus(isEqual(NOT_FOUND), unused -> Mono.just(new SenderDoesNotExistException(sendGridId)))
@@ -133,8 +180,8 @@ public class SendGridClient {
     private static Mail generateMail(Email email) {
         Mail mail = new Mail();
         mail.setTemplateId(email.getTemplateId());
-        mail.setFrom(new com.sendgrid.helpers.mail.objects.Email(email.getSenderEmail(), email.getTemplateParameters().get("senderSignatureName").getOrElse("")));
-        mail.setReplyTo(new com.sendgrid.helpers.mail.objects.Email(email.getSenderEmail(), email.getTemplateParameters().get("senderSignatureName").getOrElse("")));
+        mail.setFrom(new com.sendgrid.helpers.mail.objects.Email(email.getSenderEmail(), email.getTemplateParameters().get(SENDER_SIGNATURE_NAME_PARAMETER).getOrElse("")));
+        mail.setReplyTo(new com.sendgrid.helpers.mail.objects.Email(email.getSenderEmail(), email.getTemplateParameters().get(SENDER_SIGNATURE_NAME_PARAMETER).getOrElse("")));
         mail.addPersonalization(generatePersonalization(email));
         email.getAttachment().forEach(attachment -> mail.addAttachments(generateAttachment(attachment)));
         return mail;
@@ -147,6 +194,19 @@ public class SendGridClient {
         return personalization;
     }
 
+    private static CampaignMail generateCampaignMail(Campaign campaign, List<Campaign.Recipient> recipients) {
+        com.sendgrid.helpers.mail.objects.Email sender = new com.sendgrid.helpers.mail.objects.Email(
+                campaign.getSenderEmail(), campaign.getSharedParameters().get(SENDER_SIGNATURE_NAME_PARAMETER).getOrElse(""));
+        return new CampaignMail(
+                recipients.map(recipient -> new CampaignPersonalization(
+                        List.of(new com.sendgrid.helpers.mail.objects.Email(recipient.getEmail())),
+                        new TemplateData(campaign, recipient))),
+                sender,
+                sender,
+                campaign.getTemplateId(),
+                campaign.getAttachment().map(SendGridClient::generateAttachment).toList());
+    }
+
     private static Attachments generateAttachment(Attachment attachment) {
         return new Attachments.Builder(attachment.getFileName(), attachment.getContent())
                 .withType(attachment.getFileType())
@@ -159,6 +219,7 @@ public class SendGridClient {
                 .uri(SENDERS_ENDPOINT)
                 .accept(APPLICATION_JSON)
                 .header(AUTHORIZATION, authorizationHeader)
+                .attribute(OPERATION_ATTRIBUTE, "listSenders")
                 .retrieve()
                 .bodyToFlux(Sender.class)
                 .filter(send -> send.getNickname().equals(nickname))
@@ -168,6 +229,48 @@ public class SendGridClient {
                 .flatMap(this::deleteSender);
     }
 
+    @lombok.Value
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private static class CampaignMail {
+
+        List<CampaignPersonalization> personalizations;
+        com.sendgrid.helpers.mail.objects.Email from;
+        @JsonProperty("reply_to")
+        com.sendgrid.helpers.mail.objects.Email replyTo;
+        @JsonProperty("template_id")
+        String templateId;
+        List<Attachments> attachments;
+    }
+
+    @lombok.Value
+    private static class CampaignPersonalization {
+
+        List<com.sendgrid.helpers.mail.objects.Email> to;
+        @JsonProperty("dynamic_template_data")
+        TemplateData dynamicTemplateData;
+    }
+
+    @RequiredArgsConstructor
+    private static class TemplateData implements JsonSerializable {
+
+        private final Campaign campaign;
+        private final Campaign.Recipient recipient;
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeStartObject();
+            for (Tuple2<String, String> parameter : campaign.templateParametersOf(recipient)) {
+                generator.writeStringField(parameter._1, parameter._2);
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+            serialize(generator, serializers);
+        }
+    }
+
     @lombok.Value
     private static class EmailForm {
 
@@ -0,0 +1,67 @@
+package mail.sender.web.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("mail.sender.HttpClientRequest")
+@Label("HTTP Client Request")
+@Category({"Mail Sender", "HTTP Client"})
+@Description("Phase timings of a single outgoing HTTP request, up to the moment its response headers arrive")
+@StackTrace(false)
+class HttpClientRequestEvent extends Event {
+
+    @Label("Client")
+    String client;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Request Body Size")
+    @DataAmount
+    long requestBodySize;
+
+    @Label("Status")
+    int status;
+
+    @Label("Error")
+    String error;
+
+    @Label("Pool Acquire")
+    @Description("Time spent waiting for a pooled connection, excluding the establishment of a new one")
+    @Timespan
+    long poolAcquire;
+
+    @Label("DNS Resolution")
+    @Timespan
+    long dnsResolution;
+
+    @Label("Connect")
+    @Timespan
+    long connect;
+
+    @Label("TLS Handshake")
+    @Timespan
+    long tlsHandshake;
+
+    @Label("Request Write")
+    @Description("Time spent encoding and writing the request headers and body")
+    @Timespan
+    long requestWrite;
+
+    @Label("Time To First Byte")
+    @Description("Time between the request being written and the response headers being received")
+    @Timespan
+    long timeToFirstByte;
+}
@@ -0,0 +1,175 @@
+package mail.sender.web.client;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AttributeKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientInfos;
+import reactor.util.context.Context;
+
+import java.net.SocketAddress;
+import java.util.Optional;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.CONTENT_LENGTH;
+import static java.lang.System.nanoTime;
+
+/**
+ * Emits a {@link HttpClientRequestEvent} per request while a JFR recording has it enabled. The event is opened by an
+ * exchange filter and carried through the Reactor context to the Reactor Netty hooks, which mark the phase boundaries.
+ * Connection establishment timings are kept on the channel and reported only by the request whose acquire caused the
+ * channel to be opened, never by a later request that reuses it.
+ */
+final class RequestPhaseRecorder {
+
+    private static final AttributeKey<ConnectionTimings> CONNECTION_TIMINGS =
+            AttributeKey.valueOf(RequestPhaseRecorder.class.getName() + ".connectionTimings");
+
+    private RequestPhaseRecorder() {
+    }
+
+    static ExchangeFilterFunction filter(String client) {
+        return (request, next) -> Mono.defer(() -> {
+            HttpClientRequestEvent event = new HttpClientRequestEvent();
+            if (!event.isEnabled()) {
+                return next.exchange(request);
+            }
+            event.begin();
+            event.client = client;
+            event.operation = request.attribute(WebClientFactory.OPERATION_ATTRIBUTE).map(String::valueOf).orElse(null);
+            event.method = request.method().name();
+            event.uri = request.url().toString();
+            RequestTimings timings = new RequestTimings(event, nanoTime());
+            return next.exchange(request)
+                    .doOnNext(response -> event.status = response.rawStatusCode())
+                    .doOnError(e -> event.error = e.getClass().getName())
+                    .doFinally(unused -> timings.commit())
+                    .contextWrite(Context.of(RequestTimings.class, timings));
+        });
+    }
+
+    static HttpClient instrument(HttpClient httpClient) {
+        return httpClient
+                .doOnChannelInit((observer, channel, remoteAddress) ->
+                        channel.pipeline().addFirst(ConnectTimingHandler.class.getName(), ConnectTimingHandler.INSTANCE))
+                .doOnResolve(connection -> connectionTimings(connection).resolveStarted = nanoTime())
+                .doAfterResolve((connection, address) -> connectionTimings(connection).resolved = nanoTime())
+                .doOnRequest((request, connection) -> requestTimings(request)
+                        .ifPresent(timings -> timings.onRequest(connectionTimings(connection))))
+                .doAfterRequest((request, connection) -> requestTimings(request)
+                        .ifPresent(timings -> timings.onRequestSent(request.requestHeaders())))
+                .doOnResponse((response, connection) -> requestTimings(response)
+                        .ifPresent(RequestTimings::onResponse));
+    }
+
+    private static Optional<RequestTimings> requestTimings(HttpClientInfos infos) {
+        return infos.currentContextView().getOrEmpty(RequestTimings.class);
+    }
+
+    private static ConnectionTimings connectionTimings(Connection connection) {
+        return connectionTimings(connection.channel());
+    }
+
+    private static ConnectionTimings connectionTimings(Channel channel) {
+        ConnectionTimings timings = channel.attr(CONNECTION_TIMINGS).get();
+        if (timings == null) {
+            timings = new ConnectionTimings();
+            channel.attr(CONNECTION_TIMINGS).set(timings);
+        }
+        return timings;
+    }
+
+    private static long elapsed(long from, long to) {
+        return from == 0 || to == 0 ? 0 : Math.max(0, to - from);
+    }
+
+    /**
+     * Accessed only from the event loop of the channel it is attached to.
+     */
+    private static class ConnectionTimings {
+
+        long resolveStarted;
+        long resolved;
+        long connectStarted;
+        long connected;
+        long tlsCompleted;
+        boolean reported;
+
+        boolean openedAfter(long time) {
+            long opened = resolveStarted != 0 ? resolveStarted : connectStarted;
+            return opened != 0 && opened - time >= 0;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class RequestTimings {
+
+        private final HttpClientRequestEvent event;
+        private final long started;
+        private long requestStarted;
+        private long requestSent;
+        private long responseReceived;
+
+        void onRequest(ConnectionTimings connection) {
+            requestStarted = nanoTime();
+            if (!connection.reported) {
+                connection.reported = true;
+                if (connection.openedAfter(started)) {
+                    event.dnsResolution = elapsed(connection.resolveStarted, connection.resolved);
+                    event.connect = elapsed(connection.connectStarted, connection.connected);
+                    event.tlsHandshake = elapsed(connection.connected, connection.tlsCompleted);
+                }
+            }
+        }
+
+        void onRequestSent(HttpHeaders headers) {
+            requestSent = nanoTime();
+            event.requestBodySize = headers.getInt(CONTENT_LENGTH, -1);
+        }
+
+        void onResponse() {
+            responseReceived = nanoTime();
+        }
+
+        void commit() {
+            event.end();
+            if (event.shouldCommit()) {
+                event.poolAcquire = Math.max(0,
+                        elapsed(started, requestStarted) - event.dnsResolution - event.connect - event.tlsHandshake);
+                event.requestWrite = elapsed(requestStarted, requestSent);
+                event.timeToFirstByte = elapsed(requestSent, responseReceived);
+                event.commit();
+            }
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static class ConnectTimingHandler extends ChannelOutboundHandlerAdapter {
+
+        static final ConnectTimingHandler INSTANCE = new ConnectTimingHandler();
+
+        @Override
+        public void connect(ChannelHandlerContext ctx, SocketAddress remoteAddress, SocketAddress localAddress,
+                            ChannelPromise promise) throws Exception {
+            ConnectionTimings timings = connectionTimings(ctx.channel());
+            timings.connectStarted = nanoTime();
+            promise.addListener(future -> {
+                timings.connected = nanoTime();
+                SslHandler sslHandler = ctx.pipeline().get(SslHandler.class);
+                if (future.isSuccess() && sslHandler != null) {
+                    sslHandler.handshakeFuture().addListener(handshake -> timings.tlsCompleted = nanoTime());
+                }
+            });
+            super.connect(ctx, remoteAddress, localAddress, promise);
+            ctx.pipeline().remove(this);
+        }
+    }
+}
@@ -23,6 +23,11 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 @RequiredArgsConstructor
 public class WebClientFactory {
 
+    /**
+     * Request attribute naming the logical operation a request performs, reported in {@link HttpClientRequestEvent}.
+     */
+    public static final String OPERATION_ATTRIBUTE = WebClientFactory.class.getName() + ".operation";
+
     private static final int PENDING_ACQUIRES_MAX_COUNT = -1;
 
     private final ObjectMapper objectMapper;
@@ -31,6 +36,7 @@ public class WebClientFactory {
         return WebClient.builder()
                 .baseUrl(baseUrl.toString())
                 .clientConnector(new ReactorClientHttpConnector(createHttpClient(name, connections, timeout)))
+                .filter(RequestPhaseRecorder.filter(name))
                 .codecs(configurer -> {
                     configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
                     configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
@@ -40,7 +46,7 @@ public class WebClientFactory {
     }
 
     private static HttpClient createHttpClient(String name, int maxConnections, Duration timeout) {
-        return HttpClient
+        return RequestPhaseRecorder.instrument(HttpClient
                 .create(ConnectionProvider.builder(name)
                         .maxConnections(maxConnections)
                         .pendingAcquireMaxCount(PENDING_ACQUIRES_MAX_COUNT)
@@ -48,6 +54,6 @@ public class WebClientFactory {
                 .option(CONNECT_TIMEOUT_MILLIS, toIntExact(timeout.toMillis()))
                 .doOnConnected(connection -> connection
                         .addHandlerLast(new WriteTimeoutHandler(timeout.toMillis(), MILLISECONDS))
-                        .addHandlerLast(new ReadTimeoutHandler(timeout.toMillis(), MILLISECONDS)));
+                        .addHandlerLast(new ReadTimeoutHandler(timeout.toMillis(), MILLISECONDS))));
     }
 }
@@ -0,0 +1,72 @@
+package mail.sender.domain;
+
+import io.vavr.Tuple;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.control.Option;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the retained heap of a campaign held as individual {@link Email}s with the same campaign held as a
+ * {@link Campaign}. Every recipient gets nine parameters common to all recipients and one of its own. Names and values
+ * are copied per recipient, the way they would be when deserialized from separate JSON documents.
+ * <p>
+ * Excluded from the default build, run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CampaignFootprintTest {
+
+    private static final int RECIPIENTS = 100_000;
+    private static final int SHARED_PARAMETERS = 9;
+    private static final Attachment ATTACHMENT = new Attachment("anyBase64Content", "some.pdf", "application/pdf");
+
+    @Test
+    void givenMostlySharedParameters_whenHoldingCampaign_thenItRetainsAFractionOfTheHeapOfIndividualEmails() {
+        long emailsSize = GraphLayout.parseInstance(createEmails()).totalSize();
+        long campaignSize = GraphLayout.parseInstance(createCampaign()).totalSize();
+
+        System.out.printf("Retained heap per %d recipients: Email %d KiB, Campaign %d KiB%n",
+                RECIPIENTS, emailsSize / 1024, campaignSize / 1024);
+        assertThat(campaignSize).isLessThan(emailsSize / 3);
+    }
+
+    private static List<Email> createEmails() {
+        return List.range(0, RECIPIENTS).map(i -> new Email(
+                "test-template-id",
+                "noreply@johndoe.com",
+                recipientEmail(i),
+                sharedParameters().merge(recipientParameters(i)),
+                Option.some(ATTACHMENT)));
+    }
+
+    private static Campaign createCampaign() {
+        return new Campaign(
+                "test-template-id",
+                "noreply@johndoe.com",
+                sharedParameters(),
+                List.range(0, RECIPIENTS).map(i -> new Campaign.Recipient(recipientEmail(i), recipientParameters(i))),
+                Option.some(ATTACHMENT));
+    }
+
+    private static Map<String, String> sharedParameters() {
+        return HashMap.ofEntries(List.range(0, SHARED_PARAMETERS)
+                .map(i -> Tuple.of(copy("sharedParameter" + i), copy("Shared value number " + i))));
+    }
+
+    private static Map<String, String> recipientParameters(int recipient) {
+        return HashMap.of(copy("firstName"), copy("Recipient " + recipient));
+    }
+
+    private static String recipientEmail(int recipient) {
+        return "recipient" + recipient + "@mycompany.com";
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+}
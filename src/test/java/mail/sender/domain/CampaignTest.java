@@ -0,0 +1,41 @@
+package mail.sender.domain;
+
+import io.vavr.Tuple;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class CampaignTest {
+
+    private static final Campaign.Recipient RECIPIENT = new Campaign.Recipient("jane.doe@mycompany.com", HashMap.of("key", "other value"));
+    private static final Campaign CAMPAIGN = new Campaign(
+            "test-template-id",
+            "noreply@johndoe.com",
+            HashMap.of("subject", "Hello, World!", "key", "value"),
+            List.of(RECIPIENT),
+            Option.none());
+
+    @Test
+    void givenOverriddenParameter_whenGettingTemplateParameters_thenTheOverrideWins() {
+        assertThat(CAMPAIGN.templateParametersOf(RECIPIENT).toList())
+                .containsExactlyInAnyOrder(Tuple.of("subject", "Hello, World!"), Tuple.of("key", "other value"));
+    }
+
+    @Test
+    void givenOverriddenSenderSignatureName_whenCreatingRecipient_thenIllegalArgumentExceptionIsThrown() {
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                new Campaign.Recipient("jane.doe@mycompany.com", HashMap.of("senderSignatureName", "Jane Doe")));
+    }
+
+    @Test
+    void givenRecipientsDeserializedSeparately_whenCreatingRecipients_thenParameterNamesAreShared() {
+        Campaign.Recipient first = new Campaign.Recipient("john.doe@mycompany.com", HashMap.of(new String("key"), "value"));
+        Campaign.Recipient second = new Campaign.Recipient("jane.doe@mycompany.com", HashMap.of(new String("key"), "value"));
+
+        assertThat(first.getParameterOverrides().keySet().head()).isSameAs(second.getParameterOverrides().keySet().head());
+    }
+}
@@ -5,6 +5,7 @@ import io.vavr.collection.List;
 import io.vavr.control.Option;
 import mail.sender.config.ObjectMapperConfig;
 import mail.sender.domain.Attachment;
+import mail.sender.domain.Campaign;
 import mail.sender.domain.Email;
 import mail.sender.util.WebClientTest;
 import mail.sender.web.client.WebClientFactory;
@@ -18,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -45,6 +47,15 @@ class SendGridClientTest extends WebClientTest {
             HashMap.of("subject", "Hello, World!", "key", "value", "senderSignatureName", "John Doe"),
             Option.some(new Attachment("anyBase64Content", "some.pdf", "application/pdf")));
 
+    private static final Campaign CAMPAIGN = new Campaign(
+            "test-template-id",
+            "noreply@johndoe.com",
+            HashMap.of("subject", "Hello, World!", "key", "value", "senderSignatureName", "John Doe"),
+            List.of(
+                    new Campaign.Recipient("john.doe@mycompany.com", HashMap.empty()),
+                    new Campaign.Recipient("jane.doe@mycompany.com", HashMap.of("key", "other value"))),
+            Option.some(new Attachment("anyBase64Content", "some.pdf", "application/pdf")));
+
     private final SendGridClient client;
 
     @Autowired
@@ -72,6 +83,62 @@ class SendGridClientTest extends WebClientTest {
         assertUnknownError(client.sendEmail(EMAIL));
     }
 
+    @Test
+    void whenSendingCampaign_thenCorrectRequestIsSent() {
+        prepareResponse(createResponse(ACCEPTED));
+
+        assertEmptyMono(client.sendCampaign(CAMPAIGN));
+
+        RecordedRequest request = awaitRequest();
+        assertThat(request.getPath()).isEqualTo("/mail/send");
+        assertThat(request.getMethod()).isEqualTo(HttpMethod.POST.name());
+        assertThat(request.getHeader(AUTHORIZATION)).isEqualTo("Bearer test-api-key");
+        assertThatJson(request.getBody().readString(UTF_8)).isEqualTo(contentOf(getClass(), "sendCampaignRequest.json"));
+    }
+
+    @Test
+    void givenMoreRecipientsThanSendGridAcceptsPerRequest_whenSendingCampaign_thenTheRecipientsAreSplitAcrossRequests() {
+        prepareResponse(createResponse(ACCEPTED));
+        prepareResponse(createResponse(ACCEPTED));
+        Campaign campaign = new Campaign(
+                CAMPAIGN.getTemplateId(),
+                CAMPAIGN.getSenderEmail(),
+                CAMPAIGN.getSharedParameters(),
+                List.range(0, 1001).map(i -> new Campaign.Recipient(i + "@mycompany.com", HashMap.empty())),
+                Option.none());
+
+        assertEmptyMono(client.sendCampaign(campaign));
+
+        assertThatJson(awaitRequest().getBody().readString(UTF_8)).inPath("personalizations").isArray().hasSize(1000);
+        assertThatJson(awaitRequest().getBody().readString(UTF_8)).inPath("personalizations").isArray().hasSize(1);
+    }
+
+    @Test
+    void givenUnexpectedError_whenSendingCampaign_thenTheErrorIsPropagated() {
+        prepareResponse(createResponse(INTERNAL_SERVER_ERROR));
+
+        assertUnknownError(client.sendCampaign(CAMPAIGN));
+    }
+
+    @Test
+    void givenUnexpectedErrorForSecondBatch_whenSendingCampaign_thenTheUnsentRecipientsAreReturned() {
+        prepareResponse(createResponse(ACCEPTED));
+        prepareResponse(createResponse(INTERNAL_SERVER_ERROR));
+        Campaign campaign = new Campaign(
+                CAMPAIGN.getTemplateId(),
+                CAMPAIGN.getSenderEmail(),
+                CAMPAIGN.getSharedParameters(),
+                List.range(0, 1001).map(i -> new Campaign.Recipient(i + "@mycompany.com", HashMap.empty())),
+                Option.none());
+
+        StepVerifier.create(client.sendCampaign(campaign)).verifyErrorSatisfies(e -> {
+            assertThat(e).isInstanceOf(CampaignPartiallySentException.class).hasCauseInstanceOf(WebClientResponseException.class);
+            CampaignPartiallySentException exception = (CampaignPartiallySentException) e;
+            assertThat(exception.getFailedBatch()).isEqualTo(1);
+            assertThat(exception.getUnsentRecipients()).containsExactly(campaign.getRecipients().last());
+        });
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     void givenExistingSender_whenFetchingVerificationStatus_thenTheStatusIsReturned(boolean verified) {
@@ -0,0 +1,150 @@
+package mail.sender.web.client;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.SneakyThrows;
+import mail.sender.config.ObjectMapperConfig;
+import mail.sender.util.WebClientTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static mail.sender.util.ReactiveAsserts.assertEmptyMono;
+import static mail.sender.util.ReactiveAsserts.assertMonoError;
+import static mail.sender.web.client.WebClientFactory.OPERATION_ATTRIBUTE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+
+@ExtendWith(SpringExtension.class)
+@Import({ObjectMapperConfig.class, WebClientFactory.class})
+class WebClientFactoryTest extends WebClientTest {
+
+    private static final Duration RESPONSE_DELAY = Duration.ofMillis(300);
+
+    private final WebClient client;
+
+    @Autowired
+    public WebClientFactoryTest(WebClientFactory clientFactory) {
+        this.client = clientFactory.createWebClient("testClient", getServerUrl(), 1, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void givenEnabledRecording_whenSendingRequest_thenPhaseTimingsAreRecorded() {
+        prepareResponse(createResponse(ACCEPTED));
+
+        RecordedEvent event = recordSingleEvent(() -> assertEmptyMono(sendRequest()));
+
+        assertThat(event.getString("client")).isEqualTo("testClient");
+        assertThat(event.getString("operation")).isEqualTo("testOperation");
+        assertThat(event.getString("method")).isEqualTo("POST");
+        assertThat(event.getString("uri")).isEqualTo(getServerUrl() + "test");
+        assertThat(event.getLong("requestBodySize")).isEqualTo("{\"key\":\"value\"}".length());
+        assertThat(event.getInt("status")).isEqualTo(ACCEPTED.value());
+        assertThat(event.getString("error")).isNull();
+        assertThat(event.getDuration("connect")).isPositive();
+        assertThat(event.getDuration("requestWrite")).isPositive();
+        assertThat(event.getDuration("timeToFirstByte")).isPositive();
+        assertThat(event.getDuration()).isGreaterThanOrEqualTo(event.getDuration("timeToFirstByte"));
+    }
+
+    @Test
+    void givenEnabledRecordingAndUnexpectedError_whenSendingRequest_thenTheStatusIsRecorded() {
+        prepareResponse(createResponse(INTERNAL_SERVER_ERROR));
+
+        RecordedEvent event = recordSingleEvent(() -> assertMonoError(sendRequest(), RuntimeException.class));
+
+        assertThat(event.getInt("status")).isEqualTo(INTERNAL_SERVER_ERROR.value());
+    }
+
+    @Test
+    void givenConnectionOpenedBeforeRecording_whenSendingRequest_thenNoConnectionPhasesAreRecorded() {
+        prepareResponse(createResponse(ACCEPTED));
+        prepareResponse(createResponse(ACCEPTED));
+        assertEmptyMono(sendRequest());
+
+        RecordedEvent event = recordSingleEvent(() -> assertEmptyMono(sendRequest()));
+
+        assertThat(event.getDuration("dnsResolution")).isZero();
+        assertThat(event.getDuration("connect")).isZero();
+        assertThat(event.getDuration("tlsHandshake")).isZero();
+        assertThat(event.getDuration("poolAcquire")).isPositive();
+    }
+
+    @Test
+    void givenEnabledRecording_whenReusingConnection_thenOnlyTheFirstRequestRecordsConnectionPhases() {
+        prepareResponse(createResponse(ACCEPTED));
+        prepareResponse(createResponse(ACCEPTED));
+
+        List<RecordedEvent> events = recordEvents(() -> {
+            assertEmptyMono(sendRequest());
+            assertEmptyMono(sendRequest());
+        });
+
+        assertThat(events).hasSize(2);
+        assertThat(events.head().getDuration("connect")).isPositive();
+        assertThat(events.last().getDuration("dnsResolution")).isZero();
+        assertThat(events.last().getDuration("connect")).isZero();
+        assertThat(events.last().getDuration("tlsHandshake")).isZero();
+        assertThat(events.last().getDuration("poolAcquire")).isPositive();
+    }
+
+    @Test
+    void givenSingleConnectionAndTwoRequestsInFlight_whenSendingRequests_thenTheWaitForTheConnectionIsRecordedAsPoolAcquire() {
+        prepareResponse(createResponse(ACCEPTED).setHeadersDelay(RESPONSE_DELAY.toMillis(), MILLISECONDS));
+        prepareResponse(createResponse(ACCEPTED));
+
+        List<RecordedEvent> events = recordEvents(() -> assertEmptyMono(Flux.merge(sendRequest(), sendRequest()).then()))
+                .sortBy(event -> event.getDuration("poolAcquire"));
+
+        assertThat(events).hasSize(2);
+        assertThat(events.head().getDuration("poolAcquire")).isLessThan(RESPONSE_DELAY);
+        assertThat(events.last().getDuration("poolAcquire")).isGreaterThanOrEqualTo(RESPONSE_DELAY);
+        assertThat(events.last().getDuration("connect")).isZero();
+    }
+
+    private Mono<Void> sendRequest() {
+        return client
+                .post()
+                .uri("test")
+                .attribute(OPERATION_ATTRIBUTE, "testOperation")
+                .bodyValue(HashMap.of("key", "value"))
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    private static RecordedEvent recordSingleEvent(Runnable action) {
+        List<RecordedEvent> events = recordEvents(action);
+        assertThat(events).hasSize(1);
+        return events.head();
+    }
+
+    @SneakyThrows
+    private static List<RecordedEvent> recordEvents(Runnable action) {
+        Path file = Files.createTempFile("http-client", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(HttpClientRequestEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return List.ofAll(RecordingFile.readAllEvents(file)).sortBy(RecordedEvent::getStartTime);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}